@@ -0,0 +1,152 @@
+package com.voyager.opt.metaheuristics.gap;
+
+/**
+ * assigned agent index for each task, stored in the narrowest primitive array
+ * able to hold every agent index of the instance:
+ * <ul>
+ *   <li>byte[] for up to 256 agents</li>
+ *   <li>short[] for up to 65536 agents</li>
+ *   <li>int[] otherwise</li>
+ * </ul>
+ * Indices are stored unsigned, so the full range of each width is usable.
+ * All solutions of an instance share the same encoding.
+ */
+abstract class AgentAssignments {
+
+  /**
+   * create zero-initialized assignments with the narrowest suitable encoding
+   * @param numTasks number of tasks
+   * @param numAgents number of agents
+   * @return new assignments
+   */
+  static AgentAssignments create(int numTasks, int numAgents) {
+    if (numAgents <= 1 << Byte.SIZE) {
+      return new ByteAgentAssignments(new byte[numTasks]);
+    } else if (numAgents <= 1 << Short.SIZE) {
+      return new ShortAgentAssignments(new short[numTasks]);
+    }
+    return new IntAgentAssignments(new int[numTasks]);
+  }
+
+  /**
+   * @param taskIdx task index
+   * @return agent assigned to the task
+   */
+  abstract int get(int taskIdx);
+
+  /**
+   * @param taskIdx task index
+   * @param agentIdx agent to assign to the task
+   */
+  abstract void set(int taskIdx, int agentIdx);
+
+  /**
+   * @return number of tasks
+   */
+  abstract int size();
+
+  /**
+   * @return deep copy with the same encoding
+   */
+  abstract AgentAssignments copy();
+
+  /**
+   * @return decoded agent index of every task
+   */
+  int[] toArray() {
+    int[] agents = new int[size()];
+    for (int i = 0; i < agents.length; i++) {
+      agents[i] = get(i);
+    }
+    return agents;
+  }
+
+  private static final class ByteAgentAssignments extends AgentAssignments {
+    private final byte[] agents;
+
+    private ByteAgentAssignments(byte[] agents) {
+      this.agents = agents;
+    }
+
+    @Override
+    int get(int taskIdx) {
+      return this.agents[taskIdx] & 0xFF;
+    }
+
+    @Override
+    void set(int taskIdx, int agentIdx) {
+      this.agents[taskIdx] = (byte) agentIdx;
+    }
+
+    @Override
+    int size() {
+      return this.agents.length;
+    }
+
+    @Override
+    AgentAssignments copy() {
+      return new ByteAgentAssignments(this.agents.clone());
+    }
+  }
+
+  private static final class ShortAgentAssignments extends AgentAssignments {
+    private final short[] agents;
+
+    private ShortAgentAssignments(short[] agents) {
+      this.agents = agents;
+    }
+
+    @Override
+    int get(int taskIdx) {
+      return this.agents[taskIdx] & 0xFFFF;
+    }
+
+    @Override
+    void set(int taskIdx, int agentIdx) {
+      this.agents[taskIdx] = (short) agentIdx;
+    }
+
+    @Override
+    int size() {
+      return this.agents.length;
+    }
+
+    @Override
+    AgentAssignments copy() {
+      return new ShortAgentAssignments(this.agents.clone());
+    }
+  }
+
+  private static final class IntAgentAssignments extends AgentAssignments {
+    private final int[] agents;
+
+    private IntAgentAssignments(int[] agents) {
+      this.agents = agents;
+    }
+
+    @Override
+    int get(int taskIdx) {
+      return this.agents[taskIdx];
+    }
+
+    @Override
+    void set(int taskIdx, int agentIdx) {
+      this.agents[taskIdx] = agentIdx;
+    }
+
+    @Override
+    int size() {
+      return this.agents.length;
+    }
+
+    @Override
+    AgentAssignments copy() {
+      return new IntAgentAssignments(this.agents.clone());
+    }
+
+    @Override
+    int[] toArray() {
+      return this.agents.clone();
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package com.voyager.opt.metaheuristics.gap;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.Random;
+
+/**
+ * per-task lists of the k most promising agents, used to guide move generation
+ * and construction towards agents that are cheap and light on resources.
+ * <p>
+ * Two rankings are kept, both in ascending order:
+ * <ul>
+ *   <li>by assignment cost</li>
+ *   <li>by weighted cost, i.e. cost * resource / capacity, which also penalizes
+ *   agents whose capacity would be consumed quickly by the task</li>
+ * </ul>
+ * Candidates are stored in flat arrays of dimension numTasks * k, with the
+ * candidates of task i occupying positions [i * k, (i + 1) * k).
+ */
+@Getter
+public final class GapCandidateLists {
+  /**
+   * number of candidates kept per task
+   */
+  private final int k;
+  /**
+   * total number of agents
+   */
+  private final int numAgents;
+  /**
+   * best agents of each task by cost
+   * dimension: numTasks * k
+   */
+  @Getter(AccessLevel.NONE)
+  private final int[] costCandidates;
+  /**
+   * best agents of each task by weighted cost
+   * dimension: numTasks * k
+   */
+  @Getter(AccessLevel.NONE)
+  private final int[] weightedCostCandidates;
+
+  /**
+   * build candidate lists for the instance
+   * @param instance the instance
+   * @param k number of candidates per task, capped at the number of agents
+   */
+  public GapCandidateLists(GapInstance instance, int k) {
+    int numTasks = instance.getNumTasks();
+    int numAgents = instance.getNumAgents();
+    int[][] costs = instance.getCosts();
+    int[][] resources = instance.getResources();
+    int[] capacities = instance.getCapacities();
+
+    this.k = Math.max(1, Math.min(k, numAgents));
+    this.numAgents = numAgents;
+    this.costCandidates = new int[numTasks * this.k];
+    this.weightedCostCandidates = new int[numTasks * this.k];
+
+    double[] costKeys = new double[this.k];
+    double[] weightedCostKeys = new double[this.k];
+    for (int taskIdx = 0; taskIdx < numTasks; taskIdx++) {
+      int offset = taskIdx * this.k;
+      int costSize = 0;
+      int weightedCostSize = 0;
+      for (int agentIdx = 0; agentIdx < numAgents; agentIdx++) {
+        int cost = costs[agentIdx][taskIdx];
+        double weightedCost = (double) cost * resources[agentIdx][taskIdx]
+          / Math.max(1, capacities[agentIdx]);
+        costSize = insert(costKeys, this.costCandidates, offset, costSize,
+          cost, agentIdx);
+        weightedCostSize = insert(weightedCostKeys, this.weightedCostCandidates, offset, weightedCostSize,
+          weightedCost, agentIdx);
+      }
+    }
+  }
+
+  /**
+   * @param taskIdx task index
+   * @param rank rank of the candidate, 0 being the cheapest
+   * @return agent index
+   */
+  public int getCostCandidate(int taskIdx, int rank) {
+    return this.costCandidates[taskIdx * this.k + rank];
+  }
+
+  /**
+   * @param taskIdx task index
+   * @param rank rank of the candidate, 0 being the best
+   * @return agent index
+   */
+  public int getWeightedCostCandidate(int taskIdx, int rank) {
+    return this.weightedCostCandidates[taskIdx * this.k + rank];
+  }
+
+  /**
+   * uniformly pick one of the k best agents of a task by cost
+   * @param taskIdx task index
+   * @param random random number generator
+   * @return agent index
+   */
+  public int sampleByCost(int taskIdx, Random random) {
+    return this.costCandidates[taskIdx * this.k + random.nextInt(this.k)];
+  }
+
+  /**
+   * uniformly pick one of the k best agents of a task by weighted cost
+   * @param taskIdx task index
+   * @param random random number generator
+   * @return agent index
+   */
+  public int sampleByWeightedCost(int taskIdx, Random random) {
+    return this.weightedCostCandidates[taskIdx * this.k + random.nextInt(this.k)];
+  }
+
+  /**
+   * pick a candidate agent of a task from either ranking with equal probability
+   * @param taskIdx task index
+   * @param random random number generator
+   * @return agent index
+   */
+  public int sample(int taskIdx, Random random) {
+    return random.nextBoolean()
+      ? sampleByCost(taskIdx, random)
+      : sampleByWeightedCost(taskIdx, random);
+  }
+
+  /**
+   * pick a new agent for a task, different from its current agent.
+   * With probability candidateRate the agent is drawn from the candidate lists,
+   * otherwise uniformly from all agents to keep some diversification.
+   * @param taskIdx task index
+   * @param currAgentIdx agent currently assigned to the task
+   * @param candidateRate probability of sampling from the candidate lists
+   * @param random random number generator
+   * @return agent index, different from currAgentIdx
+   */
+  public int sampleNewAgent(int taskIdx, int currAgentIdx, double candidateRate, Random random) {
+    int newAgentIdx = currAgentIdx;
+    while (newAgentIdx == currAgentIdx) {
+      newAgentIdx = random.nextDouble() < candidateRate
+        ? sample(taskIdx, random)
+        : random.nextInt(this.numAgents);
+    }
+    return newAgentIdx;
+  }
+
+  /**
+   * insert an agent into a bounded list sorted by ascending key, dropping the worst if full
+   * @param keys keys of the current list, dimension k
+   * @param agents flat candidate array
+   * @param offset start position of the list in agents
+   * @param size current list size
+   * @param key key of the new agent
+   * @param agentIdx new agent
+   * @return new list size
+   */
+  private int insert(double[] keys, int[] agents, int offset, int size, double key, int agentIdx) {
+    if (size == this.k && key >= keys[size - 1]) {
+      return size;
+    }
+    int pos = size == this.k ? size - 1 : size;
+    while (pos > 0 && keys[pos - 1] > key) {
+      keys[pos] = keys[pos - 1];
+      agents[offset + pos] = agents[offset + pos - 1];
+      pos--;
+    }
+    keys[pos] = key;
+    agents[offset + pos] = agentIdx;
+    return size == this.k ? size : size + 1;
+  }
+}
@@ -1,12 +1,14 @@
 package com.voyager.opt.metaheuristics.gap;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 @Data
-@Builder
-@AllArgsConstructor
 public class GapInstance {
   /**
    * total number of tasks
@@ -31,4 +33,38 @@ public class GapInstance {
    * dimension: numAgents
    */
   private int[] capacities;
-}
\ No newline at end of file
+  /**
+   * lazily computed candidate lists, see {@link #getCandidateLists(int)}
+   */
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private volatile GapCandidateLists candidateLists;
+
+  @Builder
+  public GapInstance(int numTasks, int numAgents, int[][] costs, int[][] resources, int[] capacities) {
+    this.numTasks = numTasks;
+    this.numAgents = numAgents;
+    this.costs = costs;
+    this.resources = resources;
+    this.capacities = capacities;
+  }
+
+  /**
+   * get the per-task candidate lists of the k best agents, computing them on first use.
+   * The lists are cached and rebuilt only when a different k is requested;
+   * they are not refreshed if costs, resources or capacities are modified afterwards.
+   * @param k number of candidates per task
+   * @return candidate lists
+   */
+  public GapCandidateLists getCandidateLists(int k) {
+    GapCandidateLists lists = this.candidateLists;
+    int effectiveK = Math.max(1, Math.min(k, this.numAgents));
+    if (lists == null || lists.getK() != effectiveK) {
+      lists = new GapCandidateLists(this, effectiveK);
+      this.candidateLists = lists;
+    }
+    return lists;
+  }
+}
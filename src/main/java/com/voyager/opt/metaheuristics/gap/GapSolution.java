@@ -1,5 +1,6 @@
 package com.voyager.opt.metaheuristics.gap;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.util.Arrays;
@@ -14,9 +15,11 @@ public final class GapSolution {
   private final GapInstance instance;
   /**
    * dimension: 1 * numTasks
-   * assigned agent index for each task
+   * assigned agent index for each task, stored as byte[], short[] or int[]
+   * depending on the number of agents
    */
-  private final int[] agentAssignments;
+  @Getter(AccessLevel.NONE)
+  private final AgentAssignments agentAssignments;
   /**
    * dimension: 1 * numAgents
    * consumed capacity of each agent
@@ -37,25 +40,37 @@ public final class GapSolution {
 
   public GapSolution(GapInstance instance) {
     this.instance = instance;
-    this.agentAssignments = new int[this.instance.getNumTasks()];
+    this.agentAssignments = AgentAssignments.create(this.instance.getNumTasks(),
+      this.instance.getNumAgents());
     this.consumedCapacities = new int[this.instance.getNumAgents()];
-    Arrays.fill(this.agentAssignments, 0);
     Arrays.fill(consumedCapacities, 0);
     this.objective = 0;
     this.assignmentCost = 0;
     this.capacityViolationPenalty = 0;
   }
 
+  /**
+   * create a solution from a given assignment
+   * @param instance the instance
+   * @param agentAssignments assigned agent index for each task
+   */
+  public GapSolution(GapInstance instance, int[] agentAssignments) {
+    this(instance);
+    int[][] resources = this.instance.getResources();
+    for (int i = 0; i < instance.getNumTasks(); i++) {
+      int agentIdx = agentAssignments[i];
+      this.agentAssignments.set(i, agentIdx);
+      this.consumedCapacities[agentIdx] += resources[agentIdx][i];
+    }
+  }
+
   /**
    * copy constructor
    * @param other the other solution to copy from
    */
   public GapSolution(GapSolution other) {
     this.instance = other.instance;
-    this.agentAssignments = new int[this.instance.getNumTasks()];
-    System.arraycopy(other.agentAssignments, 0,
-      this.agentAssignments, 0,
-      this.instance.getNumTasks());
+    this.agentAssignments = other.agentAssignments.copy();
     this.consumedCapacities = new int[this.instance.getNumAgents()];
     System.arraycopy(other.consumedCapacities, 0,
       this.consumedCapacities, 0,
@@ -73,7 +88,21 @@ public final class GapSolution {
     int[][] resources = this.instance.getResources();
     for (int i = 0; i < instance.getNumTasks(); i++) {
       int agentIdx = random.nextInt(instance.getNumAgents());
-      this.agentAssignments[i] = agentIdx;
+      this.agentAssignments.set(i, agentIdx);
+      this.consumedCapacities[agentIdx] += resources[agentIdx][i];
+    }
+  }
+
+  /**
+   * assign each task to one of its candidate agents
+   * @param random random number generator
+   * @param candidateLists candidate lists of the instance
+   */
+  public void initialize(Random random, GapCandidateLists candidateLists) {
+    int[][] resources = this.instance.getResources();
+    for (int i = 0; i < instance.getNumTasks(); i++) {
+      int agentIdx = candidateLists.sample(i, random);
+      this.agentAssignments.set(i, agentIdx);
       this.consumedCapacities[agentIdx] += resources[agentIdx][i];
     }
   }
@@ -85,7 +114,7 @@ public final class GapSolution {
   public void computeObjective(int capacityViolationPenalty) {
     // compute assignment costs
     this.assignmentCost = IntStream.range(0, instance.getNumTasks())
-      .map(taskIdx -> instance.getCosts()[agentAssignments[taskIdx]][taskIdx])
+      .map(taskIdx -> instance.getCosts()[agentAssignments.get(taskIdx)][taskIdx])
       .sum();
 
     // compute capacity violation costs
@@ -98,7 +127,14 @@ public final class GapSolution {
   }
 
   public int getAssignedAgent(int taskIdx) {
-    return this.agentAssignments[taskIdx];
+    return this.agentAssignments.get(taskIdx);
+  }
+
+  /**
+   * @return assigned agent index for each task, as a new array
+   */
+  public int[] getAgentAssignments() {
+    return this.agentAssignments.toArray();
   }
 
   /**
@@ -107,8 +143,8 @@ public final class GapSolution {
    * @param agentIdx the agent index
    */
   public void setAssignedAgent(int taskIdx, int agentIdx) {
-    int currAgentIdx = this.agentAssignments[taskIdx];
-    this.agentAssignments[taskIdx] = agentIdx;
+    int currAgentIdx = this.agentAssignments.get(taskIdx);
+    this.agentAssignments.set(taskIdx, agentIdx);
     this.consumedCapacities[currAgentIdx] -= instance.getResources()[currAgentIdx][taskIdx];
     this.consumedCapacities[agentIdx] += instance.getResources()[agentIdx][taskIdx];
   }
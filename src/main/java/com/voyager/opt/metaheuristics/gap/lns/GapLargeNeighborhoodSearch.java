@@ -0,0 +1,314 @@
+package com.voyager.opt.metaheuristics.gap.lns;
+
+import com.voyager.opt.metaheuristics.gap.GapInstance;
+import com.voyager.opt.metaheuristics.gap.GapInstanceReader;
+import com.voyager.opt.metaheuristics.gap.GapSolution;
+import com.voyager.opt.metaheuristics.gap.sa.GapSimulatedAnnealing;
+import com.voyager.opt.metaheuristics.gap.tabu.GapTabuSearch;
+import com.voyager.opt.metaheuristics.utils.PerfRecord;
+import com.voyager.opt.metaheuristics.utils.PerfRecordsWriter;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * decomposition-based large neighborhood search.
+ * <p>
+ * At each iteration the agents are randomly split into disjoint groups. Each group,
+ * together with the tasks currently assigned to its agents, forms a sub-instance
+ * that is destroyed and repaired independently on a worker thread with tabu search
+ * or simulated annealing, warm-started from the current assignment. Since the groups
+ * share neither agents nor tasks, every improved sub-solution can be merged back
+ * into the current solution without conflicts.
+ */
+@Getter
+@Setter
+public final class GapLargeNeighborhoodSearch {
+  /**
+   * metaheuristic used to repair the sub-instances
+   */
+  public enum RepairMethod {
+    TABU_SEARCH,
+    SIMULATED_ANNEALING
+  }
+
+  /**
+   * instance to be solved
+   */
+  private final GapInstance instance;
+  /**
+   * random number generator
+   */
+  private final Random random;
+  /**
+   * repair method for the sub-instances
+   */
+  private RepairMethod repairMethod;
+  /**
+   * number of worker threads
+   */
+  private int numThreads;
+  /**
+   * number of agents in each sub-instance
+   */
+  private int agentsPerSubproblem;
+  /**
+   * best solution
+   */
+  private GapSolution bestSolution;
+  private List<PerfRecord<Integer>> perfRecords;
+  /**
+   * whether to print progress at each iteration
+   */
+  private boolean verbose;
+
+  public GapLargeNeighborhoodSearch(GapInstance instance) {
+    this.instance = instance;
+    this.random = new Random(42);
+    this.repairMethod = RepairMethod.TABU_SEARCH;
+    this.numThreads = Runtime.getRuntime().availableProcessors();
+    this.agentsPerSubproblem = 5;
+    this.bestSolution = null;
+    this.perfRecords = new ArrayList<>();
+    this.verbose = true;
+  }
+
+  public void solve() {
+    // penalty factor for capacity violation
+    int capacityViolationPenalty = 1000;
+    int numCandidates = 10;
+
+    // stopping criteria
+    int maxIter = 200;
+    int maxIterNoImprove = 20;
+
+    int numTasks = this.instance.getNumTasks();
+    int numAgents = this.instance.getNumAgents();
+    int groupSize = Math.max(2, Math.min(this.agentsPerSubproblem, numAgents));
+
+    // create a starting solution
+    GapSolution currSolution = new GapSolution(this.instance);
+    currSolution.initialize(this.random, this.instance.getCandidateLists(numCandidates));
+    currSolution.computeObjective(capacityViolationPenalty);
+    this.bestSolution = new GapSolution(currSolution);
+    this.perfRecords.add(new PerfRecord<>(0,
+      currSolution.getObjective(),
+      bestSolution.getObjective()));
+
+    int[] agents = new int[numAgents];
+    for (int i = 0; i < numAgents; i++) {
+      agents[i] = i;
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, this.numThreads));
+    try {
+      int iter = 0;
+      int iterNoImprove = 0;
+      while (true) {
+        if (this.verbose) {
+          System.out.println("iter: " + iter +
+            ", curr_obj: " + currSolution.getObjective() +
+            ", best_obj: " + bestSolution.getObjective());
+        }
+
+        // destroy: split agents into disjoint groups and collect their tasks
+        shuffle(agents);
+        int numGroups = numAgents / groupSize;
+        int[] agentGroups = new int[numAgents];
+        Arrays.fill(agentGroups, -1);
+        for (int g = 0; g < numGroups; g++) {
+          for (int i = 0; i < groupSize; i++) {
+            agentGroups[agents[g * groupSize + i]] = g;
+          }
+        }
+        int[] groupTaskCounts = new int[numGroups];
+        for (int taskIdx = 0; taskIdx < numTasks; taskIdx++) {
+          int g = agentGroups[currSolution.getAssignedAgent(taskIdx)];
+          if (g >= 0) {
+            groupTaskCounts[g]++;
+          }
+        }
+        int[][] groupTasks = new int[numGroups][];
+        for (int g = 0; g < numGroups; g++) {
+          groupTasks[g] = new int[groupTaskCounts[g]];
+          groupTaskCounts[g] = 0;
+        }
+        for (int taskIdx = 0; taskIdx < numTasks; taskIdx++) {
+          int g = agentGroups[currSolution.getAssignedAgent(taskIdx)];
+          if (g >= 0) {
+            groupTasks[g][groupTaskCounts[g]++] = taskIdx;
+          }
+        }
+
+        // repair: solve each sub-instance concurrently
+        List<Future<int[]>> futures = new ArrayList<>(numGroups);
+        for (int g = 0; g < numGroups; g++) {
+          if (groupTasks[g].length == 0) {
+            continue;
+          }
+          int[] subAgents = Arrays.copyOfRange(agents, g * groupSize, (g + 1) * groupSize);
+          int[] subTasks = groupTasks[g];
+          int[] subAssignments = new int[subTasks.length];
+          for (int i = 0; i < subTasks.length; i++) {
+            subAssignments[i] = indexOf(subAgents, currSolution.getAssignedAgent(subTasks[i]));
+          }
+          long seed = this.random.nextLong();
+          futures.add(executor.submit(() -> repair(subAgents, subTasks, subAssignments,
+            capacityViolationPenalty, seed)));
+        }
+
+        // merge improved sub-solutions, they are disjoint by construction
+        for (Future<int[]> future : futures) {
+          int[] newAssignments = future.get();
+          if (newAssignments == null) {
+            continue;
+          }
+          for (int i = 0; i < newAssignments.length; i += 2) {
+            currSolution.setAssignedAgent(newAssignments[i], newAssignments[i + 1]);
+          }
+        }
+        currSolution.computeObjective(capacityViolationPenalty);
+
+        boolean bestSolutionUpdated = false;
+        if (currSolution.getObjective() < this.bestSolution.getObjective()) {
+          this.bestSolution = new GapSolution(currSolution);
+          bestSolutionUpdated = true;
+        }
+
+        iter++;
+        this.perfRecords.add(new PerfRecord<>(iter,
+          currSolution.getObjective(),
+          bestSolution.getObjective()));
+
+        // check stopping criteria
+        iterNoImprove = bestSolutionUpdated ? 0 : iterNoImprove + 1;
+        if (iter >= maxIter || iterNoImprove >= maxIterNoImprove) {
+          break;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("sub-instance repair failed", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * build the sub-instance of the given agents and tasks and re-optimize it
+   * @param subAgents agents of the sub-instance, as indices of the full instance
+   * @param subTasks tasks of the sub-instance, as indices of the full instance
+   * @param subAssignments current assignment of each sub-task, as indices into subAgents
+   * @param capacityViolationPenalty penalty factor
+   * @param seed random seed of the repair method
+   * @return flattened (taskIdx, agentIdx) pairs of the improved assignment, or null if not improved
+   */
+  private int[] repair(int[] subAgents, int[] subTasks, int[] subAssignments,
+                       int capacityViolationPenalty, long seed) {
+    int[][] costs = this.instance.getCosts();
+    int[][] resources = this.instance.getResources();
+    int[] capacities = this.instance.getCapacities();
+
+    int[][] subCosts = new int[subAgents.length][subTasks.length];
+    int[][] subResources = new int[subAgents.length][subTasks.length];
+    int[] subCapacities = new int[subAgents.length];
+    for (int i = 0; i < subAgents.length; i++) {
+      int agentIdx = subAgents[i];
+      for (int j = 0; j < subTasks.length; j++) {
+        subCosts[i][j] = costs[agentIdx][subTasks[j]];
+        subResources[i][j] = resources[agentIdx][subTasks[j]];
+      }
+      subCapacities[i] = capacities[agentIdx];
+    }
+    GapInstance subInstance = GapInstance.builder()
+      .numTasks(subTasks.length)
+      .numAgents(subAgents.length)
+      .costs(subCosts)
+      .resources(subResources)
+      .capacities(subCapacities)
+      .build();
+
+    GapSolution initialSolution = new GapSolution(subInstance, subAssignments);
+    initialSolution.computeObjective(capacityViolationPenalty);
+
+    GapSolution subSolution;
+    if (this.repairMethod == RepairMethod.SIMULATED_ANNEALING) {
+      // short schedule starting close to the incumbent: a low initial temperature keeps
+      // the warm start from being randomized away, and the number of moves per
+      // temperature scales with the sub-instance size
+      double initialTemperature = 5;
+      double endingTemperature = 0.01;
+      int numTemperatures = 100;
+      GapSimulatedAnnealing simulatedAnnealing = new GapSimulatedAnnealing(subInstance, seed);
+      simulatedAnnealing.setVerbose(false);
+      simulatedAnnealing.setInitialTemperature(initialTemperature);
+      simulatedAnnealing.setEndingTemperature(endingTemperature);
+      simulatedAnnealing.setCoolingRate(Math.pow(endingTemperature / initialTemperature, 1.0 / numTemperatures));
+      simulatedAnnealing.setIterationsPerTemperature(2 * subTasks.length);
+      simulatedAnnealing.solve(initialSolution);
+      subSolution = simulatedAnnealing.getBestSolution();
+    } else {
+      // iteration budget scales with the sub-instance size instead of the
+      // full-instance defaults
+      GapTabuSearch tabuSearch = new GapTabuSearch(subInstance, seed);
+      tabuSearch.setVerbose(false);
+      tabuSearch.setMaxIter(2 * subTasks.length);
+      tabuSearch.setMaxIterNoImprove(Math.max(20, subTasks.length / 2));
+      tabuSearch.solve(initialSolution);
+      subSolution = tabuSearch.getBestSolution();
+    }
+
+    if (subSolution.getObjective() >= initialSolution.getObjective()) {
+      return null;
+    }
+    int[] newAssignments = new int[subTasks.length * 2];
+    for (int j = 0; j < subTasks.length; j++) {
+      newAssignments[2 * j] = subTasks[j];
+      newAssignments[2 * j + 1] = subAgents[subSolution.getAssignedAgent(j)];
+    }
+    return newAssignments;
+  }
+
+  private void shuffle(int[] values) {
+    for (int i = values.length - 1; i > 0; i--) {
+      int j = this.random.nextInt(i + 1);
+      int temp = values[i];
+      values[i] = values[j];
+      values[j] = temp;
+    }
+  }
+
+  private static int indexOf(int[] values, int value) {
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public void savePerfRecords(String filename) {
+    PerfRecordsWriter.write(filename, perfRecords);
+  }
+
+  public static void main(String[] args) {
+    File file = new File("src/main/resources/data/gap/gap1.txt");
+    String filePath = file.getAbsolutePath();
+    List<GapInstance> instances = GapInstanceReader.read(filePath);
+
+    GapInstance instance = instances.get(1);
+    GapLargeNeighborhoodSearch lns = new GapLargeNeighborhoodSearch(instance);
+    lns.solve();
+    System.out.println("Best Solution:" + lns.getBestSolution().getObjective());
+  }
+}
@@ -1,9 +1,12 @@
 package com.voyager.opt.metaheuristics.gap.sa;
 
+import com.voyager.opt.metaheuristics.gap.GapCandidateLists;
 import com.voyager.opt.metaheuristics.gap.GapInstance;
 import com.voyager.opt.metaheuristics.gap.GapInstanceReader;
 import com.voyager.opt.metaheuristics.gap.GapSolution;
 import com.voyager.opt.metaheuristics.utils.PerfRecord;
+import lombok.Getter;
+import lombok.Setter;
 
 import java.io.File;
 import java.io.IOException;
@@ -24,27 +27,67 @@ public class GapSimulatedAnnealing {
   /**
    * best solution
    */
+  @Getter
   private GapSolution bestSolution;
   private List<PerfRecord<Integer>> perfRecords;
+  /**
+   * whether to print progress at each temperature
+   */
+  @Setter
+  private boolean verbose;
+  /**
+   * cooling schedule
+   */
+  @Setter
+  private double initialTemperature;
+  @Setter
+  private double coolingRate;
+  @Setter
+  private double endingTemperature;
+  @Setter
+  private int iterationsPerTemperature;
 
   public GapSimulatedAnnealing(GapInstance instance) {
+    this(instance, 42);
+  }
+
+  public GapSimulatedAnnealing(GapInstance instance, long seed) {
     this.instance = instance;
-    this.random = new Random(42);
+    this.random = new Random(seed);
     this.bestSolution = null;
     this.perfRecords = new ArrayList<>();
+    this.verbose = true;
+    this.initialTemperature = 1000;
+    this.coolingRate = 0.9999;
+    this.endingTemperature = 0.0001;
+    this.iterationsPerTemperature = 100;
   }
 
   public void solve() {
+    solve(null);
+  }
+
+  /**
+   * run simulated annealing
+   * @param initialSolution starting solution, or null to construct one
+   */
+  public void solve(GapSolution initialSolution) {
     // penalty factor for capacity violation
     int capacityViolationPenalty = 1000;
-    double initialTemperature = 1000;
-    double coolingRate = 0.9999;
-    double endingTemperature = 0.0001;
-    int iterationsPerTemperature = 100;
+
+    // guided move generation
+    int numCandidates = 10;
+    double candidateMoveRate = 0.8;
+    GapCandidateLists candidateLists = this.instance.getCandidateLists(numCandidates);
 
     // create a starting solution
-    GapSolution currSolution = new GapSolution(this.instance);
-    currSolution.initialize(this.random);
+    GapSolution currSolution;
+    if (initialSolution == null) {
+      currSolution = new GapSolution(this.instance);
+      currSolution.initialize(this.random, candidateLists);
+    } else {
+      currSolution = new GapSolution(initialSolution);
+    }
     currSolution.computeObjective(capacityViolationPenalty);
     this.bestSolution = currSolution;
     this.perfRecords.add(new PerfRecord<>(0,
@@ -52,26 +95,25 @@ public class GapSimulatedAnnealing {
       bestSolution.getObjective()));
 
     int numTasks = this.instance.getNumTasks();
-    int numAgents = this.instance.getNumAgents();
 
     // Set initial temperature
-    double temperature = initialTemperature;
+    double temperature = this.initialTemperature;
 
-    while (temperature > endingTemperature) {
-      System.out.println("temperature: " + temperature +
-        ", curr_obj: " + currSolution.getObjective() +
-        ", best_obj: " + bestSolution.getObjective());
-      for (int i = 0; i < iterationsPerTemperature; i++) {
+    while (temperature > this.endingTemperature) {
+      if (this.verbose) {
+        System.out.println("temperature: " + temperature +
+          ", curr_obj: " + currSolution.getObjective() +
+          ", best_obj: " + bestSolution.getObjective());
+      }
+      for (int i = 0; i < this.iterationsPerTemperature; i++) {
         // Generate neighbor solution
         GapSolution newSolution = new GapSolution(currSolution);
 
         // mutate one task assignment
         int randTaskIdx = this.random.nextInt(numTasks);
         int currAgentIdx = newSolution.getAssignedAgent(randTaskIdx);
-        int newAgentIdx = this.random.nextInt(numAgents);
-        while (newAgentIdx == currAgentIdx) {
-          newAgentIdx = this.random.nextInt(numAgents);
-        }
+        int newAgentIdx = candidateLists.sampleNewAgent(randTaskIdx, currAgentIdx,
+          candidateMoveRate, this.random);
         newSolution.setAssignedAgent(randTaskIdx, newAgentIdx);
 
         // compute objective value after mutation
@@ -92,7 +134,7 @@ public class GapSimulatedAnnealing {
       }
 
       // Cool down temperature
-      temperature *= coolingRate;
+      temperature *= this.coolingRate;
     }
   }
 
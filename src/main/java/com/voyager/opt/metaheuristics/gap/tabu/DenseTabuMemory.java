@@ -0,0 +1,32 @@
+package com.voyager.opt.metaheuristics.gap.tabu;
+
+import java.util.Arrays;
+
+/**
+ * tabu memory backed by a full numTasks * numAgents table,
+ * suitable for small and medium instances
+ */
+public final class DenseTabuMemory implements TabuMemory {
+  /**
+   * expiry iteration of each move
+   * dimension: numTasks * numAgents
+   */
+  private final int[][] tabuTable;
+
+  public DenseTabuMemory(int numTasks, int numAgents) {
+    this.tabuTable = new int[numTasks][numAgents];
+    for (int i = 0; i < numTasks; i++) {
+      Arrays.fill(this.tabuTable[i], 0);
+    }
+  }
+
+  @Override
+  public boolean isTabu(int taskIdx, int agentIdx, int iter) {
+    return this.tabuTable[taskIdx][agentIdx] >= iter;
+  }
+
+  @Override
+  public void setTabu(int taskIdx, int agentIdx, int iter, int tabuLength) {
+    this.tabuTable[taskIdx][agentIdx] = iter + tabuLength;
+  }
+}
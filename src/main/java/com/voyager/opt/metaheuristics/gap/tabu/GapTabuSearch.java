@@ -1,5 +1,6 @@
 package com.voyager.opt.metaheuristics.gap.tabu;
 
+import com.voyager.opt.metaheuristics.gap.GapCandidateLists;
 import com.voyager.opt.metaheuristics.gap.GapInstance;
 import com.voyager.opt.metaheuristics.gap.GapInstanceReader;
 import com.voyager.opt.metaheuristics.gap.GapSolution;
@@ -16,6 +17,18 @@ import java.util.*;
 @Getter
 @Setter
 public final class GapTabuSearch {
+  /**
+   * number of neighbors evaluated per iteration
+   */
+  private static final int NEIGH_SIZE = 100;
+  /**
+   * tabu tenure
+   */
+  private static final int TABU_LENGTH = 100;
+  /**
+   * instances with more (task, agent) pairs than this use the hashed tabu memory
+   */
+  private static final long MAX_DENSE_TABU_CELLS = 1L << 22;
   /**
    * instance to be solved
    */
@@ -24,44 +37,60 @@ public final class GapTabuSearch {
    * random number generator
    */
   private final Random random;
-  /**
-   * tabu table
-   */
-  private final int[][] tabuTable;
   /**
    * best solution
    */
   private GapSolution bestSolution;
   private List<PerfRecord<Integer>> perfRecords;
+  /**
+   * whether to print progress at each iteration
+   */
+  private boolean verbose;
+  /**
+   * stopping criteria
+   */
+  private int maxIter;
+  private int maxIterNoImprove;
 
   public GapTabuSearch(GapInstance instance) {
-    this.instance = instance;
-    this.random = new Random(42);
-    int numTasks = instance.getNumTasks();
-    this.tabuTable = new int[numTasks][instance.getNumAgents()];
-    for (int i = 0; i < numTasks; i++) {
-      Arrays.fill(this.tabuTable[i], 0);
-    }
+    this(instance, 42);
+  }
 
+  public GapTabuSearch(GapInstance instance, long seed) {
+    this.instance = instance;
+    this.random = new Random(seed);
     this.bestSolution = null;
     this.perfRecords = new ArrayList<>();
+    this.verbose = true;
+    this.maxIter = 2000;
+    this.maxIterNoImprove = 500;
   }
 
   public void solve() {
+    solve(null);
+  }
+
+  /**
+   * run tabu search
+   * @param initialSolution starting solution, or null to construct one
+   */
+  public void solve(GapSolution initialSolution) {
     // penalty factor for capacity violation
     int capacityViolationPenalty = 1000;
 
-    // tabu search parameters
-    int neighSize = 100;
-    int tabuLength = 100;
-
-    // stopping criteria
-    int maxIter = 2000;
-    int maxIterNoImprove = 500;
+    // guided move generation
+    int numCandidates = 10;
+    double candidateMoveRate = 0.8;
+    GapCandidateLists candidateLists = this.instance.getCandidateLists(numCandidates);
 
     // create a starting solution
-    GapSolution currSolution = new GapSolution(this.instance);
-    currSolution.initialize(this.random);
+    GapSolution currSolution;
+    if (initialSolution == null) {
+      currSolution = new GapSolution(this.instance);
+      currSolution.initialize(this.random, candidateLists);
+    } else {
+      currSolution = new GapSolution(initialSolution);
+    }
     currSolution.computeObjective(capacityViolationPenalty);
     this.bestSolution = currSolution;
     this.perfRecords.add(new PerfRecord<>(0,
@@ -69,26 +98,28 @@ public final class GapTabuSearch {
       bestSolution.getObjective()));
 
     int numTasks = this.instance.getNumTasks();
-    int numAgents = this.instance.getNumAgents();
+
+    // fresh tabu memory for each run
+    TabuMemory tabuMemory = createTabuMemory();
 
     // main workflow
     int iter = 0;
     int iterNoImprove = 0;
     while (true) {
-      System.out.println("iter: " + iter + ", best obj: " + bestSolution.getObjective());
+      if (this.verbose) {
+        System.out.println("iter: " + iter + ", best obj: " + bestSolution.getObjective());
+      }
       // create neighboring solutions
-      List<GapSolutionNeighbor> neighbors = new ArrayList<>(neighSize);
-      for (int i = 0; i < neighSize; i++) {
+      List<GapSolutionNeighbor> neighbors = new ArrayList<>(NEIGH_SIZE);
+      for (int i = 0; i < NEIGH_SIZE; i++) {
         // create a copy of current solution
         GapSolution newSolution = new GapSolution(currSolution);
 
         // mutate one task assignment
         int randTaskIdx = this.random.nextInt(numTasks);
         int currAgentIdx = newSolution.getAssignedAgent(randTaskIdx);
-        int newAgentIdx = this.random.nextInt(numAgents);
-        while (newAgentIdx == currAgentIdx) {
-          newAgentIdx = this.random.nextInt(numAgents);
-        }
+        int newAgentIdx = candidateLists.sampleNewAgent(randTaskIdx, currAgentIdx,
+          candidateMoveRate, this.random);
         newSolution.setAssignedAgent(randTaskIdx, newAgentIdx);
 
         // compute objective value after mutation
@@ -113,11 +144,11 @@ public final class GapTabuSearch {
         int mutatedTaskIdx = neighbor.getMutatedTaskIdx();
         int newAgentIdx = neighbor.getNewAgentIdx();
 
-        if (this.tabuTable[mutatedTaskIdx][newAgentIdx] < iter) {
+        if (!tabuMemory.isTabu(mutatedTaskIdx, newAgentIdx, iter)) {
           // this move is not tabooed, proceed
           currSolution = newSolution;
           currSolutionUpdated = true;
-          this.tabuTable[mutatedTaskIdx][newAgentIdx] = iter + tabuLength;
+          tabuMemory.setTabu(mutatedTaskIdx, newAgentIdx, iter, TABU_LENGTH);
 
           if (currSolution.getObjective() < this.bestSolution.getObjective()) {
             this.bestSolution = currSolution;
@@ -131,7 +162,7 @@ public final class GapTabuSearch {
             bestSolution = currSolution;
             currSolutionUpdated = true;
             bestSolutionUpdated = true;
-            this.tabuTable[mutatedTaskIdx][newAgentIdx] = iter + tabuLength;
+            tabuMemory.setTabu(mutatedTaskIdx, newAgentIdx, iter, TABU_LENGTH);
             break;
           }
         }
@@ -141,7 +172,7 @@ public final class GapTabuSearch {
       if (!currSolutionUpdated) {
         GapSolutionNeighbor neighbor = neighbors.getFirst();
         currSolution = neighbor.getNewSolution();
-        this.tabuTable[neighbor.getMutatedTaskIdx()][neighbor.getNewAgentIdx()] = iter + tabuLength;
+        tabuMemory.setTabu(neighbor.getMutatedTaskIdx(), neighbor.getNewAgentIdx(), iter, TABU_LENGTH);
       }
 
       iter++;
@@ -151,12 +182,26 @@ public final class GapTabuSearch {
 
       // check stopping criteria
       iterNoImprove = bestSolutionUpdated ? 0 : iterNoImprove + 1;
-      if (iter >= maxIter || iterNoImprove >= maxIterNoImprove) {
+      if (iter >= this.maxIter || iterNoImprove >= this.maxIterNoImprove) {
         break;
       }
     }
   }
 
+  /**
+   * create an empty tabu memory, using a full table unless the instance is too large
+   * @return tabu memory
+   */
+  private TabuMemory createTabuMemory() {
+    int numTasks = this.instance.getNumTasks();
+    int numAgents = this.instance.getNumAgents();
+    if ((long) numTasks * numAgents <= MAX_DENSE_TABU_CELLS) {
+      return new DenseTabuMemory(numTasks, numAgents);
+    }
+    // at most NEIGH_SIZE moves are recorded per iteration, each live for TABU_LENGTH iterations
+    return new HashedTabuMemory(TABU_LENGTH * NEIGH_SIZE);
+  }
+
   public void savePerfRecords(String filename) {
     PerfRecordsWriter.write(filename, perfRecords);
   }
@@ -0,0 +1,185 @@
+package com.voyager.opt.metaheuristics.gap.tabu;
+
+import java.util.Arrays;
+
+/**
+ * tabu memory that only stores the moves that are currently tabooed.
+ * <p>
+ * (task, agent) keys live in an open-addressing hash table with linear probing,
+ * and a FIFO queue records them in insertion order. Since the iteration counter
+ * only grows and the tenure is fixed, insertion order is also expiry order, so
+ * expired moves are evicted from the head of the queue before each insertion.
+ * Memory therefore scales with the number of live tabu moves (roughly the tabu
+ * tenure times the moves recorded per iteration), not with numTasks * numAgents.
+ */
+public final class HashedTabuMemory implements TabuMemory {
+  private static final long EMPTY = -1L;
+
+  /**
+   * hash table slots, EMPTY if unused
+   */
+  private long[] keys;
+  /**
+   * expiry iteration of the move stored in the same slot
+   */
+  private int[] expiries;
+  /**
+   * number of occupied slots
+   */
+  private int size;
+
+  /**
+   * circular queue of inserted moves, ordered by expiry
+   */
+  private long[] queueKeys;
+  private int[] queueExpiries;
+  private int queueHead;
+  private int queueSize;
+
+  /**
+   * @param expectedSize expected number of live tabu moves, e.g. the tabu tenure
+   */
+  public HashedTabuMemory(int expectedSize) {
+    int queueCapacity = Integer.highestOneBit(Math.max(expectedSize, 8) - 1) << 1;
+    this.queueKeys = new long[queueCapacity];
+    this.queueExpiries = new int[queueCapacity];
+    this.queueHead = 0;
+    this.queueSize = 0;
+    this.keys = new long[queueCapacity * 2];
+    this.expiries = new int[queueCapacity * 2];
+    Arrays.fill(this.keys, EMPTY);
+    this.size = 0;
+  }
+
+  @Override
+  public boolean isTabu(int taskIdx, int agentIdx, int iter) {
+    int slot = findSlot(toKey(taskIdx, agentIdx));
+    // moves never recorded behave like an expiry of 0, as in the dense table
+    int expiry = this.keys[slot] == EMPTY ? 0 : this.expiries[slot];
+    return expiry >= iter;
+  }
+
+  @Override
+  public void setTabu(int taskIdx, int agentIdx, int iter, int tabuLength) {
+    evictExpired(iter);
+
+    long key = toKey(taskIdx, agentIdx);
+    int expiry = iter + tabuLength;
+    int slot = findSlot(key);
+    if (this.keys[slot] == EMPTY) {
+      if ((this.size + 1) * 2 > this.keys.length) {
+        rehash(this.keys.length * 2);
+        slot = findSlot(key);
+      }
+      this.keys[slot] = key;
+      this.size++;
+    }
+    this.expiries[slot] = expiry;
+    enqueue(key, expiry);
+  }
+
+  /**
+   * remove moves whose expiry is before the given iteration
+   * @param iter current iteration
+   */
+  private void evictExpired(int iter) {
+    int mask = this.queueKeys.length - 1;
+    while (this.queueSize > 0 && this.queueExpiries[this.queueHead] < iter) {
+      long key = this.queueKeys[this.queueHead];
+      int expiry = this.queueExpiries[this.queueHead];
+      this.queueHead = (this.queueHead + 1) & mask;
+      this.queueSize--;
+
+      // the move may have been re-inserted later with a newer expiry
+      int slot = findSlot(key);
+      if (this.keys[slot] != EMPTY && this.expiries[slot] == expiry) {
+        removeSlot(slot);
+      }
+    }
+  }
+
+  private void enqueue(long key, int expiry) {
+    if (this.queueSize == this.queueKeys.length) {
+      int capacity = this.queueKeys.length;
+      long[] newKeys = new long[capacity * 2];
+      int[] newExpiries = new int[capacity * 2];
+      for (int i = 0; i < this.queueSize; i++) {
+        int idx = (this.queueHead + i) & (capacity - 1);
+        newKeys[i] = this.queueKeys[idx];
+        newExpiries[i] = this.queueExpiries[idx];
+      }
+      this.queueKeys = newKeys;
+      this.queueExpiries = newExpiries;
+      this.queueHead = 0;
+    }
+    int tail = (this.queueHead + this.queueSize) & (this.queueKeys.length - 1);
+    this.queueKeys[tail] = key;
+    this.queueExpiries[tail] = expiry;
+    this.queueSize++;
+  }
+
+  /**
+   * linear probing lookup
+   * @param key move key
+   * @return the slot holding the key, or the empty slot where it would be inserted
+   */
+  private int findSlot(long key) {
+    int mask = this.keys.length - 1;
+    int slot = hash(key) & mask;
+    while (this.keys[slot] != EMPTY && this.keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * delete a slot using backward-shift deletion, so no tombstones are needed
+   * @param slot the occupied slot to clear
+   */
+  private void removeSlot(int slot) {
+    int mask = this.keys.length - 1;
+    int hole = slot;
+    int next = (hole + 1) & mask;
+    while (this.keys[next] != EMPTY) {
+      int home = hash(this.keys[next]) & mask;
+      // move the entry into the hole if its home slot is not within (hole, next]
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        this.keys[hole] = this.keys[next];
+        this.expiries[hole] = this.expiries[next];
+        hole = next;
+      }
+      next = (next + 1) & mask;
+    }
+    this.keys[hole] = EMPTY;
+    this.size--;
+  }
+
+  private void rehash(int capacity) {
+    long[] oldKeys = this.keys;
+    int[] oldExpiries = this.expiries;
+    this.keys = new long[capacity];
+    this.expiries = new int[capacity];
+    Arrays.fill(this.keys, EMPTY);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != EMPTY) {
+        int slot = findSlot(oldKeys[i]);
+        this.keys[slot] = oldKeys[i];
+        this.expiries[slot] = oldExpiries[i];
+      }
+    }
+  }
+
+  private static long toKey(int taskIdx, int agentIdx) {
+    return ((long) taskIdx << 32) | (agentIdx & 0xFFFFFFFFL);
+  }
+
+  private static int hash(long key) {
+    // finalizer of MurmurHash3
+    key ^= key >>> 33;
+    key *= 0xff51afd7ed558ccdL;
+    key ^= key >>> 33;
+    key *= 0xc4ceb9fe1a85ec53L;
+    key ^= key >>> 33;
+    return (int) key;
+  }
+}
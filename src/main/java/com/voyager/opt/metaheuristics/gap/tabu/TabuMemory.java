@@ -0,0 +1,24 @@
+package com.voyager.opt.metaheuristics.gap.tabu;
+
+/**
+ * tabu status of (task, agent) moves
+ */
+public interface TabuMemory {
+  /**
+   * check whether assigning the task to the agent is tabu at the given iteration
+   * @param taskIdx task index
+   * @param agentIdx agent index
+   * @param iter current iteration
+   * @return true if the move is tabooed
+   */
+  boolean isTabu(int taskIdx, int agentIdx, int iter);
+
+  /**
+   * forbid assigning the task to the agent until iter + tabuLength (inclusive)
+   * @param taskIdx task index
+   * @param agentIdx agent index
+   * @param iter current iteration
+   * @param tabuLength tabu tenure
+   */
+  void setTabu(int taskIdx, int agentIdx, int iter, int tabuLength);
+}